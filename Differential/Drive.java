@@ -31,6 +31,33 @@ public class Drive {
         return out;
     }
 
+    public double[][] dVelocities(double omega, double R, double[] dOmega, double[] dR) {
+        // get tangents of the wheel velocities as list [dv_l, dv_r] (see Sensitivity)
+        // omega, R: arguments passed to `velocities`
+        // dOmega, dR: tangents of omega and R
+        // length is treated as the Sensitivity.LENGTH parameter
+        double[] dv_l = new double[Sensitivity.COUNT];
+        double[] dv_r = new double[Sensitivity.COUNT];
+
+        if (omega == 0) {
+            // Straight line movement; R is the overall robot speed
+            for (int i = 0; i < Sensitivity.COUNT; i++) {
+                dv_l[i] = dR[i];
+                dv_r[i] = dR[i];
+            }
+            double[][] out = { dv_l, dv_r };
+            return out;
+        }
+
+        double[] dLength = Sensitivity.seed(Sensitivity.LENGTH);
+        for (int i = 0; i < Sensitivity.COUNT; i++) {
+            dv_l[i] = dOmega[i] * (R - length / 2) + omega * (dR[i] - dLength[i] / 2);
+            dv_r[i] = dOmega[i] * (R + length / 2) + omega * (dR[i] + dLength[i] / 2);
+        }
+        double[][] out = { dv_l, dv_r };
+        return out;
+    }
+
     public double[] states(double v_l, double v_r) {
         // inverse of `velocities`; get angular velocity (s^-1) and radius of curvature
         // (m),
@@ -79,6 +79,32 @@ public class Modes {
         return new double[] {power, -power};
       }
     }
+
+    public double[] set(double r, double theta, double[] state, double[][] tangents, double[][] dv) {
+      // same as `set`, also writing the velocity tangents into dv[0] and dv[1]
+      // given the state tangents [dx, dy, dtheta] (see Sensitivity)
+      double[] velocities = set(r, theta, state);
+      dv[0] = Sensitivity.zero();
+      dv[1] = Sensitivity.zero();
+
+      // only turning depends on the pose
+      double pose = state[2] % (2 * Math.PI);
+      double dTheta = Math.abs(theta - pose);
+      double reversed = (theta + Math.PI) % (2 * Math.PI);
+      double dThetaBackwards = Math.abs(reversed - pose);
+      if (r < rEpsilon || dTheta < thetaEpsilon || dThetaBackwards < thetaEpsilon) {
+        return velocities;
+      }
+
+      // power = 2 * max * |pose - target| / pi
+      double turnAngle = pose - theta;
+      for (int i = 0; i < Sensitivity.COUNT; i++) {
+        double dPower = 2 * max * Math.signum(turnAngle) * tangents[2][i] / Math.PI;
+        dv[0][i] = turnAngle < 0 ? -dPower : dPower;
+        dv[1][i] = -dv[0][i];
+      }
+      return velocities;
+    }
   }
 
   public static class Standard {
@@ -171,6 +197,42 @@ public class Modes {
         return new double[] {power, -power};
       }
     }
+
+    public double[] set(double r, double theta, double[] state, double[][] tangents, double[][] dv) {
+      // same as `set`, also writing the velocity tangents into dv[0] and dv[1]
+      // given the state tangents [dx, dy, dtheta] (see Sensitivity)
+      double[] velocities = set(r, theta, state);
+      dv[0] = Sensitivity.zero();
+      dv[1] = Sensitivity.zero();
+
+      // only turning depends on the pose and the gains
+      double pose = state[2] % (2 * Math.PI);
+      double dTheta = Math.abs(theta - pose);
+      double reversed = (theta + Math.PI) % (2 * Math.PI);
+      double dThetaBackwards = Math.abs(reversed - pose);
+      if (r < rEpsilon || dTheta < thetaEpsilon || dThetaBackwards < thetaEpsilon) {
+        return velocities;
+      }
+
+      double target;
+      if (dTheta < dThetaBackwards) {
+        target = theta;
+      } else {
+        target = reversed;
+      }
+
+      // power = 2 * K * max * |pose - target| / pi + C
+      double turnAngle = pose - target;
+      double[] dK = Sensitivity.seed(Sensitivity.K);
+      double[] dC = Sensitivity.seed(Sensitivity.MU);
+      for (int i = 0; i < Sensitivity.COUNT; i++) {
+        double dPower = 2 * max * (dK[i] * Math.abs(turnAngle)
+            + K * Math.signum(turnAngle) * tangents[2][i]) / Math.PI + dC[i];
+        dv[0][i] = turnAngle < 0 ? -dPower : dPower;
+        dv[1][i] = -dv[0][i];
+      }
+      return velocities;
+    }
   }
 
   public static class Arcade {
@@ -307,6 +369,81 @@ public class Modes {
         return bottom;
       }
     }
+
+    double[][] dSetQ(double r, double theta, double[] dTheta, double sign) {
+      // tangents of setQ1 (sign = 1) or setQ2 (sign = -1) as list [dv_l, dv_r],
+      // given the tangent of theta
+      if (theta < thetaEpsilon) {
+        return new double[][] {Sensitivity.zero(), Sensitivity.zero()};
+      }
+
+      double[] dLength = Sensitivity.seed(Sensitivity.LENGTH);
+      double omega_max = -sign * 2 * max / robot.length;
+      double u = theta / (Math.PI / 2);
+      double omega = lerp(0, omega_max, u);
+      double R_max = (2 * max + sign * omega * robot.length) / (2 * omega);
+      double R = lerp(0, R_max, r);
+
+      double[] dOmega = new double[Sensitivity.COUNT];
+      double[] dR = new double[Sensitivity.COUNT];
+      for (int i = 0; i < Sensitivity.COUNT; i++) {
+        double dOmega_max = -omega_max * dLength[i] / robot.length;
+        dOmega[i] = dOmega_max * u + omega_max * dTheta[i] / (Math.PI / 2);
+        // R_max = max / omega + sign * length / 2
+        double dR_max = -max * dOmega[i] / (omega * omega) + sign * dLength[i] / 2;
+        dR[i] = r * dR_max;
+      }
+      return robot.dVelocities(omega, R, dOmega, dR);
+    }
+
+    double[][] dSetTop(double r, double theta, double[] dTheta) {
+      // tangents of setTop as list [dv_l, dv_r], given the tangent of theta
+      double[] dQ = new double[Sensitivity.COUNT];
+      if (theta <= Math.PI / 2) {
+        for (int i = 0; i < Sensitivity.COUNT; i++) {
+          dQ[i] = -dTheta[i];
+        }
+        return dSetQ(r, Math.PI / 2 - theta, dQ, 1);
+      } else {
+        return dSetQ(r, theta - Math.PI / 2, dTheta, -1);
+      }
+    }
+
+    public double[] set(double r, double theta, double[] state, double[][] tangents, double[][] dv) {
+      // same as `set`, also writing the velocity tangents into dv[0] and dv[1]
+      // given the state tangents [dx, dy, dtheta] (see Sensitivity)
+      double[] velocities = set(r, theta, state);
+      dv[0] = Sensitivity.zero();
+      dv[1] = Sensitivity.zero();
+
+      if (r < rEpsilon) {
+        return velocities;
+      }
+
+      double pose = state[2] % (2 * Math.PI);
+      double nTheta = (2 * Math.PI + theta - pose + Math.PI / 2) % (2 * Math.PI);
+      double[] dNTheta = new double[Sensitivity.COUNT];
+      for (int i = 0; i < Sensitivity.COUNT; i++) {
+        dNTheta[i] = -tangents[2][i];
+      }
+
+      if (nTheta < Math.PI) {
+        double[][] top = dSetTop(r, nTheta, dNTheta);
+        dv[0] = top[0];
+        dv[1] = top[1];
+      } else {
+        double[] dReflected = new double[Sensitivity.COUNT];
+        for (int i = 0; i < Sensitivity.COUNT; i++) {
+          dReflected[i] = -dNTheta[i];
+        }
+        double[][] equivalents = dSetTop(r, 2 * Math.PI - nTheta, dReflected);
+        for (int i = 0; i < Sensitivity.COUNT; i++) {
+          dv[0][i] = -equivalents[0][i];
+          dv[1][i] = -equivalents[1][i];
+        }
+      }
+      return velocities;
+    }
   }
 
   public static class Curvature {
@@ -393,5 +530,45 @@ public class Modes {
 
       return velocities;
     }
+
+    public double[] set(double r, double theta, double[] state, double[][] tangents, double[][] dv) {
+      // same as `set`, also writing the velocity tangents into dv[0] and dv[1]
+      // (see Sensitivity); curvature drive ignores the state, so only the
+      // motor distance contributes
+      double[] velocities = set(r, theta, state);
+      dv[0] = Sensitivity.zero();
+      dv[1] = Sensitivity.zero();
+
+      if (Math.abs(r) < rEpsilon || Math.abs(theta) < thetaEpsilon) {
+        return velocities;
+      }
+
+      double[] dLength = Sensitivity.seed(Sensitivity.LENGTH);
+      double dir = Math.signum(theta);
+      double rotation = Math.signum(r);
+      double theta_k = Math.abs(theta);
+      double omega_max = 2 * max / robot.length;
+      double omega = rotation * lerp(0, omega_max, theta_k);
+
+      // R = max / omega -/+ length / 2, before taking magnitude and scaling
+      double side = omega > 0 ? -1 : 1;
+      double R = (2 * max + side * omega * robot.length) / (2 * omega);
+      double v_k = Math.abs(r);
+      double scale = dir * v_k * Math.signum(R);
+      R = dir * lerp(0, Math.abs(R), v_k);
+
+      double[] dOmega = new double[Sensitivity.COUNT];
+      double[] dR = new double[Sensitivity.COUNT];
+      for (int i = 0; i < Sensitivity.COUNT; i++) {
+        double dOmega_max = -omega_max * dLength[i] / robot.length;
+        dOmega[i] = rotation * theta_k * dOmega_max;
+        dR[i] = scale * (-max * dOmega[i] / (omega * omega) + side * dLength[i] / 2);
+      }
+      double[][] tangentsV = robot.dVelocities(omega, R, dOmega, dR);
+      dv[0] = tangentsV[0];
+      dv[1] = tangentsV[1];
+
+      return velocities;
+    }
   }
 }
@@ -9,6 +9,10 @@ public class Robot {
     double theta = Math.PI / 2;
     double v_l = 0;
     double v_r = 0;
+    // pose tangents (see Sensitivity); null unless sensitivities are tracked
+    double[] dx = null;
+    double[] dy = null;
+    double[] dtheta = null;
 
     public Robot(
             double l, double max_v, double x_pos, double y_pos,
@@ -92,10 +96,105 @@ public class Robot {
         theta = statef[2];
     }
 
+    public void track() {
+        // start tracking pose sensitivities from the current state, which is taken
+        // to be independent of the parameters
+        dx = Sensitivity.zero();
+        dy = Sensitivity.zero();
+        dtheta = Sensitivity.zero();
+    }
+
+    public double[][] tangents() {
+        // get pose tangents as list [dx, dy, dtheta] (see Sensitivity)
+        double[][] out = { dx.clone(), dy.clone(), dtheta.clone() };
+        return out;
+    }
+
+    public void delta(double V_l, double V_r, double[] dV_l, double[] dV_r, double dt) {
+        // update robot state as in `delta` while propagating the pose tangents
+        // dV_l, dV_r: tangents of the new motor velocities
+        if (dx == null) {
+            this.track();
+        }
+
+        // clamped velocities do not depend on the parameters
+        if (Math.abs(V_l) > max) {
+            V_l = Math.signum(V_l) * max;
+            dV_l = Sensitivity.zero();
+        }
+        if (Math.abs(V_r) > max) {
+            V_r = Math.signum(V_r) * max;
+            dV_r = Sensitivity.zero();
+        }
+
+        // get transformed state
+        Drive transformer = new Drive(length);
+        double[] transformed = transformer.states(V_l, V_r);
+        double omega = transformed[0];
+        double R = transformed[1];
+
+        // tangents of omega = (v_r - v_l) / length and of the tangential velocity
+        double[] dLength = Sensitivity.seed(Sensitivity.LENGTH);
+        double[] dOmega = new double[Sensitivity.COUNT];
+        double[] dV = new double[Sensitivity.COUNT];
+        for (int i = 0; i < Sensitivity.COUNT; i++) {
+            dOmega[i] = (dV_r[i] - dV_l[i]) / length - omega * dLength[i] / length;
+            dV[i] = (dV_l[i] + dV_r[i]) / 2;
+        }
+
+        double[] dxf = new double[Sensitivity.COUNT];
+        double[] dyf = new double[Sensitivity.COUNT];
+        double[] dthetaf = new double[Sensitivity.COUNT];
+
+        if (omega == 0) {
+            // straight line motion, keeping the first order effect of omega
+            // so that turning gains still have a gradient
+            double v = V_l;
+            double c = Math.cos(theta);
+            double s = Math.sin(theta);
+            for (int i = 0; i < Sensitivity.COUNT; i++) {
+                dxf[i] = dx[i] + (dV[i] * c - v * s * dtheta[i]) * dt
+                        - v * s * dOmega[i] * dt * dt / 2;
+                dyf[i] = dy[i] + (dV[i] * s + v * c * dtheta[i]) * dt
+                        + v * c * dOmega[i] * dt * dt / 2;
+                dthetaf[i] = dtheta[i] + dOmega[i] * dt;
+            }
+        } else {
+            // rotation about the ICC:
+            // x' = x + R (sin(theta + omega dt) - sin(theta))
+            // y' = y - R (cos(theta + omega dt) - cos(theta))
+            double v = (V_l + V_r) / 2;
+            double thetaf = theta + omega * dt;
+            double dSin = Math.sin(thetaf) - Math.sin(theta);
+            double dCos = Math.cos(thetaf) - Math.cos(theta);
+            for (int i = 0; i < Sensitivity.COUNT; i++) {
+                // R = v / omega
+                double dR = (dV[i] - R * dOmega[i]) / omega;
+                dthetaf[i] = dtheta[i] + dOmega[i] * dt;
+                dxf[i] = dx[i] + dR * dSin
+                        + R * (Math.cos(thetaf) * dthetaf[i] - Math.cos(theta) * dtheta[i]);
+                dyf[i] = dy[i] - dR * dCos
+                        + R * (Math.sin(thetaf) * dthetaf[i] - Math.sin(theta) * dtheta[i]);
+            }
+        }
+
+        // update state and tangents
+        this.delta(V_l, V_r, dt);
+        dx = dxf;
+        dy = dyf;
+        dtheta = dthetaf;
+    }
+
     public interface Driver {
         public double velocity(double[] state);
     }
 
+    public interface SensitiveDriver {
+        // get motor velocities [v_l, v_r] for a state, writing their tangents into
+        // dv[0] and dv[1] given the state tangents [dx, dy, dtheta]
+        public double[] velocities(double[] state, double[][] tangents, double[][] dv);
+    }
+
     public double[] drive(Driver left, Driver right, double start, double end, double dt) {
         // integrate over deltas to get final state given variable left and right motor
         // velocities
@@ -117,6 +216,59 @@ public class Robot {
         return state;
     }
 
+    public double[] drive(SensitiveDriver driver, double start, double end, double dt) {
+        // integrate over deltas as in `drive` while tracking pose sensitivities;
+        // tangents are reset at the start, so they cover only this run
+        double t = start;
+        int timesteps = (int) Math.floor((end - start) / dt);
+        double[] state = new double[4];
+        this.track();
+
+        for (int n = 0; n < timesteps; n++) {
+            state = new double[] { x, y, theta, t };
+
+            double[][] dv = new double[2][Sensitivity.COUNT];
+            double[] v = driver.velocities(state, this.tangents(), dv);
+
+            this.delta(v[0], v[1], dv[0], dv[1], dt);
+            t += dt;
+        }
+
+        state = new double[] { x, y, theta, t };
+        return state;
+    }
+
+    public double[] drive(SensitiveDriver driver, double end) {
+        return this.drive(driver, 0, end, 0.01);
+    }
+
+    public double error(double[] target) {
+        // squared final-pose error to a target [x, y] or [x, y, theta]
+        // heading error is wrapped into [-pi, pi]
+        double error = Math.pow(x - target[0], 2) + Math.pow(y - target[1], 2);
+        if (target.length > 2) {
+            error += Math.pow(Math.IEEEremainder(theta - target[2], 2 * Math.PI), 2);
+        }
+        return error;
+    }
+
+    public double[] gradient(double[] target) {
+        // gradient of `error` with respect to the parameters (see Sensitivity)
+        // from the tracked pose tangents
+        double eTheta = 0;
+        if (target.length > 2) {
+            eTheta = Math.IEEEremainder(theta - target[2], 2 * Math.PI);
+        }
+
+        double[] out = new double[Sensitivity.COUNT];
+        for (int i = 0; i < Sensitivity.COUNT; i++) {
+            out[i] = 2 * (x - target[0]) * dx[i]
+                    + 2 * (y - target[1]) * dy[i]
+                    + 2 * eTheta * dtheta[i];
+        }
+        return out;
+    }
+
     public double[] drive(Driver left, Driver right, double start, double end) {
         return this.drive(left, right, start, end, 0.01);
     }
@@ -0,0 +1,33 @@
+package Differential;
+
+public class Sensitivity {
+    /*
+     * Forward-mode sensitivities for gradient-based tuning.
+     * Every tracked quantity q carries a tangent array dq of length COUNT, where
+     * dq[i] is the derivative of q with respect to the parameter with index i.
+     * Tangents are carried alongside the state through the mode controllers and
+     * Robot.delta, so a single run gives the derivatives of the final pose with
+     * respect to every parameter at once.
+     *
+     * K and MU are the gains of Modes.Standard.
+     * LENGTH is the distance between the motors; it is shared by the Robot and the
+     * Drive used by the mode controllers, which are assumed to describe the same robot.
+     */
+
+    public static final int K = 0;
+    public static final int MU = 1;
+    public static final int LENGTH = 2;
+    public static final int COUNT = 3;
+
+    public static double[] zero() {
+        // tangent of a quantity that does not depend on any parameter
+        return new double[COUNT];
+    }
+
+    public static double[] seed(int parameter) {
+        // tangent of a parameter with respect to all parameters
+        double[] out = new double[COUNT];
+        out[parameter] = 1;
+        return out;
+    }
+}